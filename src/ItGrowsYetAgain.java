@@ -1,17 +1,31 @@
 // Compile: javac ItGrowsYetAgain.java
-// Run:     java ItGrowsYetAgain
+// Run:     java ItGrowsYetAgain [--telemetry]
 // Java 11+ recommended
 
 import javax.swing.*;
-import javax.swing.Timer;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 import javax.imageio.ImageIO;
 
 /**
@@ -19,7 +33,7 @@ import javax.imageio.ImageIO;
  * - SeederDrone: plants on empty field cells; refills & rests at SEEDER_REST.
  * - HarvesterDrone: harvests ripe plants; unloads & rests at STORAGE.
  */
-public class ItGrowsYetAgain extends JPanel implements ActionListener {
+public class ItGrowsYetAgain extends Canvas {
 
     /**
 	 * 
@@ -41,8 +55,16 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
 
         // --- Game loop / render ---
         public static int TARGET_FPS = 60;
-        public static boolean SHOW_DEBUG = true;
-        public static boolean DRAW_GRID_LINES = true;
+        public static volatile boolean SHOW_DEBUG = true;      // read by the render thread
+        public static volatile boolean DRAW_GRID_LINES = true; // read by the render thread
+
+        // --- Simulation clock ---
+        // The simulation runs on its own thread at a fixed rate and publishes snapshots;
+        // rendering interpolates between them, so these are independent of TARGET_FPS.
+        public static int SIM_TICKS_PER_SEC = 30;
+        public static double SIM_SPEED = 1.0;           // simulated seconds per real second
+        public static double SIM_FAST_SPEED = 10.0;     // speed used while fast-forward is toggled on
+        public static int SIM_MAX_STEPS_PER_TICK = 50;  // catch-up cap so a stall can't snowball
 
         // --- Plant / growth ---
         // Number of growth stages: 0..MAX_STAGE-1
@@ -67,6 +89,15 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
         public static boolean ALLOW_DIAGONALS = false; // movement is grid-step (4-way)
         public static int RANDOM_SEED = 42;            // set to -1 to use true random
 
+        // --- Telemetry ---
+        // Off by default; also enabled by passing --telemetry on the command line.
+        public static boolean TELEMETRY_ENABLED = false;
+        public static String TELEMETRY_DIR = "telemetry";
+        public static int TELEMETRY_INTERVAL_TICKS = 30;     // one frame per simulated second at 30 ticks/sec
+        public static int TELEMETRY_QUEUE_CAPACITY = 64;     // frames buffered before sampling backs off
+        public static int TELEMETRY_FRAMES_PER_FILE = 3600;  // rotate to a new segment after this many frames
+        public static int TELEMETRY_MAX_FILES = 8;           // oldest segments beyond this are deleted
+
         // --- Assets ---
         public static String ASSETS_DIR = "assets";
         public static String PLANTS_DIR = ASSETS_DIR + File.separator + "plants";
@@ -97,9 +128,14 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
             new Color(50, 120, 50),
             new Color(60, 200, 60)
         };
+        public static Color COLOR_GRID_LINES    = new Color(255, 255, 255, 30);
+        public static Color COLOR_HUD_TEXT      = new Color(255, 255, 255, 220);
+        public static Color COLOR_HUD_PANEL     = new Color(0, 0, 0, 140);
 
         // UI scaling & font
         public static Font HUD_FONT = new Font("Consolas", Font.PLAIN, 13);
+        public static int HUD_LINE_HEIGHT = 16;
+        public static int HUD_MARGIN = 6;
 
         private GameConfig() {}
     }
@@ -276,11 +312,9 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
     //         ENTITIES
     // =========================
     interface Updatable { void update(double dt); }
-    interface Renderable { void render(Graphics2D g); }
 
-    static abstract class Entity implements Updatable, Renderable {
+    static abstract class Entity implements Updatable {
         double x, y;
-        abstract String debug();
     }
 
     static abstract class Drone extends Entity {
@@ -289,6 +323,7 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
         double speedPxPerSec;
         int targetCx = -1, targetCy = -1;
         boolean busy = false;
+        Image sprite;
 
         Drone(World world, AssetManager assets, double speedTilesPerSec) {
             this.world = world;
@@ -326,16 +361,19 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
             }
         }
 
-        @Override public void render(Graphics2D g) { /* subclasses */ }
         @Override public void update(double dt) { /* subclasses */ }
 
         abstract void think();
+
+        // Inspector/HUD accessors; kept primitive so snapshots can copy them without allocating text.
+        abstract String kindName();
+        abstract int load();
+        abstract int capacity();
     }
 
     static final class SeederDrone extends Drone {
         int seeds;
         final int capacity;
-        Image sprite;
 
         SeederDrone(World w, AssetManager a, int capacity, double speedTilesPerSec) {
             super(w, a, speedTilesPerSec);
@@ -392,22 +430,14 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
             }
         }
 
-        @Override
-        public void render(Graphics2D g) {
-            int s = GameConfig.TILE_SIZE;
-            g.drawImage(sprite, (int)(x - s/2), (int)(y - s/2), s, s, null);
-        }
-
-        @Override
-        String debug() {
-            return "Seeder seeds=" + seeds + "/" + capacity + " target=(" + targetCx + "," + targetCy + ")";
-        }
+        @Override String kindName() { return "Seeder"; }
+        @Override int load() { return seeds; }
+        @Override int capacity() { return capacity; }
     }
 
     static final class HarvesterDrone extends Drone {
         int cargo = 0;
         final int capacity;
-        Image sprite;
 
         HarvesterDrone(World w, AssetManager a, int capacity, double speedTilesPerSec) {
             super(w, a, speedTilesPerSec);
@@ -461,15 +491,497 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
             }
         }
 
-        @Override
-        public void render(Graphics2D g) {
-            int s = GameConfig.TILE_SIZE;
-            g.drawImage(sprite, (int)(x - s/2), (int)(y - s/2), s, s, null);
+        @Override String kindName() { return "Harvester"; }
+        @Override int load() { return cargo; }
+        @Override int capacity() { return capacity; }
+    }
+
+    // =========================
+    //     RENDER SNAPSHOT
+    // =========================
+    /**
+     * Immutable picture of the world published by the simulation thread after each batch of steps.
+     * The render thread only ever reads snapshots, never the live World/Drone objects.
+     * Each snapshot covers the simulated interval [simStart, simEnd] (prev -> current positions);
+     * consecutive snapshots are contiguous, so drones can be interpolated in simulated time.
+     */
+    static final class RenderSnapshot {
+        final long tick;
+        final long publishedNanos;
+        final double simStart, simEnd; // simulated seconds covered by this batch of steps
+        final double simPending;       // accumulated but not yet stepped when published
+        final double speed;            // simulated seconds per real second at publish time
+        final double renderLag;        // how far behind the live sim clock drones are drawn
+        final int cols, rows;
+        final int[] plantStages;      // row-major, -1 = no plant
+        final Image[] droneSprites;
+        final double[] prevX, prevY;  // positions at the previous snapshot
+        final double[] droneX, droneY;
+        final String[] droneKinds;    // shared constants from Drone.kindName()
+        final int[] droneLoad, droneCapacity;
+        final int[] droneTargetX, droneTargetY;
+
+        RenderSnapshot(long tick, long publishedNanos, double simStart, double simEnd, double simPending,
+                       double speed, double renderLag, int cols, int rows, int[] plantStages,
+                       Image[] droneSprites, double[] prevX, double[] prevY, double[] droneX, double[] droneY,
+                       String[] droneKinds, int[] droneLoad, int[] droneCapacity, int[] droneTargetX, int[] droneTargetY) {
+            this.tick = tick;
+            this.publishedNanos = publishedNanos;
+            this.simStart = simStart; this.simEnd = simEnd;
+            this.simPending = simPending;
+            this.speed = speed;
+            this.renderLag = renderLag;
+            this.cols = cols; this.rows = rows;
+            this.plantStages = plantStages;
+            this.droneSprites = droneSprites;
+            this.prevX = prevX; this.prevY = prevY;
+            this.droneX = droneX; this.droneY = droneY;
+            this.droneKinds = droneKinds;
+            this.droneLoad = droneLoad; this.droneCapacity = droneCapacity;
+            this.droneTargetX = droneTargetX; this.droneTargetY = droneTargetY;
         }
 
-        @Override
-        String debug() {
-            return "Harvester cargo=" + cargo + "/" + capacity + " target=(" + targetCx + "," + targetCy + ")";
+        int droneCount() { return droneSprites.length; }
+
+        int plantStage(int x, int y) { return plantStages[y * cols + x]; }
+
+        /**
+         * Simulated time to draw at: the live sim clock extrapolated from this snapshot, minus renderLag
+         * so it stays inside already-published data even when steps arrive in uneven batches.
+         */
+        double renderTime(long nowNanos) {
+            return simEnd + simPending + (nowNanos - publishedNanos) / 1_000_000_000.0 * speed - renderLag;
+        }
+
+        /** Position of t within this snapshot's interval; clamped so a stalled sim just holds still. */
+        double alpha(double t) {
+            if (simEnd <= simStart) return 1;
+            double a = (t - simStart) / (simEnd - simStart);
+            return a < 0 ? 0 : (a > 1 ? 1 : a);
+        }
+
+        double x(int i, double alpha) { return prevX[i] + (droneX[i] - prevX[i]) * alpha; }
+        double y(int i, double alpha) { return prevY[i] + (droneY[i] - prevY[i]) * alpha; }
+    }
+
+    // =========================
+    //           HUD
+    // =========================
+    /**
+     * HUD + drone inspector that draws without allocating per frame.
+     * Text is formatted into reused char buffers only when the snapshot or the inspector
+     * page changes; static labels are laid out once as GlyphVectors. Drones are summarised
+     * per kind, and the per-drone list is paged so it never runs off-screen.
+     */
+    static final class HudRenderer {
+        static final String TITLE = "ItGrowsYetAgain  R: sprinkle seeds | G: grid | D: debug | F: fast-forward";
+        static final String PAGE_HINT = "  PgUp/PgDn";
+        private static final int LINE_CHARS = 96;
+        private static final int MAX_KINDS = 4;
+        private static final int KIND_COLUMN = 10;
+
+        private final Font font;
+        private final Map<String, GlyphVector> glyphCache = new HashMap<>();
+        private FontRenderContext glyphFrc;
+        private BufferedImage panel;
+
+        // Formatted text, rebuilt only when its inputs change
+        private char[][] lines = new char[0][];
+        private int[] lineLen = new int[0];
+        private int lineCount, inspectorStart;
+        private char[] cur;
+        private int curLen;
+        private final char[] digits = new char[11];
+
+        private RenderSnapshot formattedFor;
+        private int formattedPage = -1, formattedRows = -1;
+        private boolean formattedDebug;
+
+        // Aggregation scratch
+        private final String[] kindNames = new String[MAX_KINDS];
+        private final int[] kindCount = new int[MAX_KINDS], kindLoad = new int[MAX_KINDS], kindCap = new int[MAX_KINDS];
+        private final int[] kindEmpty = new int[MAX_KINDS], kindFull = new int[MAX_KINDS];
+        private final int[] stageCounts = new int[GameConfig.PLANT_GROWTH_STAGES];
+
+        private volatile int requestedPage; // written from the input thread, clamped on render
+
+        HudRenderer(Font font) { this.font = font; }
+
+        void pageBy(int delta) { requestedPage = Math.max(0, requestedPage + delta); }
+
+        void render(Graphics2D g, RenderSnapshot snap, int width, int height) {
+            int lh = GameConfig.HUD_LINE_HEIGHT, margin = GameConfig.HUD_MARGIN;
+            boolean debug = GameConfig.SHOW_DEBUG;
+            g.setFont(font);
+
+            // Page size follows the window: whatever is left below the title, stats and inspector header
+            int statLines = formattedFor == snap ? inspectorStart : countKinds(snap) + 1;
+            int rowsPerPage = Math.max(1, height / lh - 2 - statLines - 1);
+            int n = snap.droneCount();
+            int pageCount = Math.max(1, (n + rowsPerPage - 1) / rowsPerPage);
+            int page = Math.min(requestedPage, pageCount - 1);
+            if (page != requestedPage) requestedPage = page;
+
+            if (snap != formattedFor || page != formattedPage || rowsPerPage != formattedRows || debug != formattedDebug) {
+                format(snap, debug, page, rowsPerPage, pageCount);
+                formattedFor = snap;
+                formattedPage = page;
+                formattedRows = rowsPerPage;
+                formattedDebug = debug;
+            }
+
+            if (debug && lineCount > inspectorStart) {
+                int top = (inspectorStart + 1) * lh + 4;
+                int w = width - 2 * margin + 4, h = Math.min(height - top, (lineCount - inspectorStart) * lh);
+                g.drawImage(panel(width, height), margin - 2, top, margin - 2 + w, top + h, 0, 0, w, h, null);
+            }
+
+            g.setColor(GameConfig.COLOR_HUD_TEXT);
+            g.drawGlyphVector(glyphs(g, TITLE), margin, lh);
+            for (int i = 0; i < lineCount; i++) {
+                g.drawChars(lines[i], 0, lineLen[i], margin, (i + 2) * lh);
+            }
+        }
+
+        private void format(RenderSnapshot snap, boolean debug, int page, int rowsPerPage, int pageCount) {
+            lineCount = 0;
+
+            int kinds = countKinds(snap);
+            for (int k = 0; k < kinds; k++) {
+                beginLine();
+                append(kindNames[k]); append(" x"); append(kindCount[k]);
+                append("  load "); append(kindLoad[k]); append('/'); append(kindCap[k]);
+                append("  empty "); append(kindEmpty[k]);
+                append("  full "); append(kindFull[k]);
+                endLine();
+            }
+
+            Arrays.fill(stageCounts, 0);
+            int plantCount = 0;
+            for (int stage : snap.plantStages) {
+                if (stage < 0) continue;
+                plantCount++;
+                if (stage < stageCounts.length) stageCounts[stage]++;
+            }
+            beginLine();
+            append("Plants "); append(plantCount); append("  by stage ");
+            for (int i = 0; i < stageCounts.length; i++) {
+                if (i > 0) append('/');
+                append(stageCounts[i]);
+            }
+            endLine();
+
+            inspectorStart = lineCount;
+            if (!debug) return;
+
+            int n = snap.droneCount();
+            int from = page * rowsPerPage;
+            int to = Math.min(n, from + rowsPerPage);
+            beginLine();
+            append("Drones "); append(n == 0 ? 0 : from + 1); append('-'); append(to);
+            append(" of "); append(n);
+            if (pageCount > 1) append(PAGE_HINT);
+            endLine();
+
+            for (int i = from; i < to; i++) {
+                beginLine();
+                append('#'); append(i);
+                padTo(5);
+                append(snap.droneKinds[i]);
+                padTo(5 + KIND_COLUMN);
+                append(snap.droneLoad[i]); append('/'); append(snap.droneCapacity[i]);
+                append("  -> ("); append(snap.droneTargetX[i]); append(','); append(snap.droneTargetY[i]); append(')');
+                endLine();
+            }
+        }
+
+        private int countKinds(RenderSnapshot snap) {
+            int kinds = 0;
+            Arrays.fill(kindCount, 0);
+            Arrays.fill(kindLoad, 0);
+            Arrays.fill(kindCap, 0);
+            Arrays.fill(kindEmpty, 0);
+            Arrays.fill(kindFull, 0);
+            for (int i = 0; i < snap.droneCount(); i++) {
+                String kind = snap.droneKinds[i];
+                int k = 0;
+                while (k < kinds && kindNames[k] != kind) k++; // kind names are shared constants
+                if (k == kinds) {
+                    if (kinds == MAX_KINDS) continue;
+                    kindNames[kinds++] = kind;
+                }
+                int load = snap.droneLoad[i], cap = snap.droneCapacity[i];
+                kindCount[k]++;
+                kindLoad[k] += load;
+                kindCap[k] += cap;
+                if (load <= 0) kindEmpty[k]++;
+                if (load >= cap) kindFull[k]++;
+            }
+            return kinds;
+        }
+
+        /** Translucent fills take a slow, allocating path in Java2D, so blit a pre-filled image instead. */
+        private Image panel(int width, int height) {
+            if (panel == null || panel.getWidth() < width || panel.getHeight() < height) {
+                panel = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB);
+                Graphics2D pg = panel.createGraphics();
+                pg.setColor(GameConfig.COLOR_HUD_PANEL);
+                pg.fillRect(0, 0, panel.getWidth(), panel.getHeight());
+                pg.dispose();
+            }
+            return panel;
+        }
+
+        private GlyphVector glyphs(Graphics2D g, String text) {
+            FontRenderContext frc = g.getFontRenderContext();
+            if (!frc.equals(glyphFrc)) {
+                glyphCache.clear();
+                glyphFrc = frc;
+            }
+            GlyphVector gv = glyphCache.get(text);
+            if (gv == null) {
+                gv = font.createGlyphVector(frc, text);
+                glyphCache.put(text, gv);
+            }
+            return gv;
+        }
+
+        // ---- char buffer formatting ----
+        private void beginLine() {
+            if (lineCount == lines.length) {
+                int grown = Math.max(8, lines.length * 2);
+                lines = Arrays.copyOf(lines, grown);
+                lineLen = Arrays.copyOf(lineLen, grown);
+                for (int i = lineCount; i < grown; i++) lines[i] = new char[LINE_CHARS];
+            }
+            cur = lines[lineCount];
+            curLen = 0;
+        }
+
+        private void endLine() { lineLen[lineCount++] = curLen; }
+
+        private void append(char c) {
+            if (curLen < cur.length) cur[curLen++] = c;
+        }
+
+        private void append(String s) {
+            int len = Math.min(s.length(), cur.length - curLen);
+            s.getChars(0, len, cur, curLen);
+            curLen += len;
+        }
+
+        private void append(int v) {
+            if (v < 0) { append('-'); v = -v; }
+            int d = digits.length;
+            do {
+                digits[--d] = (char) ('0' + v % 10);
+                v /= 10;
+            } while (v > 0);
+            while (d < digits.length) append(digits[d++]);
+        }
+
+        private void padTo(int column) {
+            do append(' '); while (curLen < column && curLen < cur.length);
+        }
+    }
+
+    // =========================
+    //        TELEMETRY
+    // =========================
+    /**
+     * Streams world state to a rolling set of gzip files for offline analysis.
+     * The sim thread only hands over already-published (immutable) snapshots through a
+     * bounded queue and never blocks: when the queue is full the sample is dropped and the
+     * sampling stride widens until the writer catches up. Encoding and I/O happen on the
+     * writer thread, which delta-encodes each frame against the last one it wrote.
+     *
+     * Segment layout (all big-endian, inside gzip):
+     *   header: int MAGIC, short VERSION, int cols, int rows, int drones, drones x UTF kind
+     *   frame:  byte type, long tick, varint samplesDroppedBefore (dropped since the previous
+     *           queued sample, i.e. the gap right before this frame), then
+     *     KEY:   cols*rows x byte stage (-1 = empty), drones x (float x, float y, varint load)
+     *     DELTA: varint n, n x (varint cellIndexGap, byte stage),
+     *            varint m, m x (varint droneIndexGap, float x, float y, varint load)
+     * Every segment starts with a KEY frame so each file decodes on its own.
+     */
+    static final class TelemetryWriter {
+        private static final int MAGIC = 0x49475954; // "IGYT"
+        private static final short VERSION = 1;
+        private static final byte FRAME_KEY = 0, FRAME_DELTA = 1;
+        private static final int MAX_STRIDE_FACTOR = 64;
+        private static final int FLUSH_EVERY_FRAMES = 16;
+
+        private final Path dir;
+        private final String runId;
+        private final BlockingQueue<Sample> queue;
+        private final int queueCapacity;
+        private final Thread thread;
+        private volatile boolean open = true;
+
+        // Sim-thread side
+        private final int baseStride;
+        private int stride;
+        private long nextTick = 0;
+        private int droppedSinceQueued = 0;
+
+        // Writer-thread side
+        private DataOutputStream out;
+        private int segment = 0, framesInSegment = 0;
+        private RenderSnapshot last;
+
+        /** A queued snapshot plus how many samples were dropped just before it, fixed at offer time. */
+        private static final class Sample {
+            final RenderSnapshot snap;
+            final int droppedBefore;
+            Sample(RenderSnapshot snap, int droppedBefore) { this.snap = snap; this.droppedBefore = droppedBefore; }
+        }
+
+        TelemetryWriter(Path dir, int queueCapacity, int strideTicks) {
+            this.dir = dir;
+            this.runId = "run-" + System.currentTimeMillis();
+            this.queueCapacity = queueCapacity;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.baseStride = Math.max(1, strideTicks);
+            this.stride = baseStride;
+            this.thread = new Thread(this::run, "telemetry");
+            this.thread.setDaemon(true);
+        }
+
+        void start() { thread.start(); }
+
+        /** Called on the sim thread after each publish; never blocks. */
+        void sample(RenderSnapshot snap) {
+            if (!open || snap.tick < nextTick) return;
+            if (queue.offer(new Sample(snap, droppedSinceQueued))) {
+                droppedSinceQueued = 0;
+                // Writer is keeping up again: tighten back towards the configured rate
+                if (stride > baseStride && queue.size() < queueCapacity / 4) stride = Math.max(baseStride, stride / 2);
+            } else {
+                droppedSinceQueued++;
+                stride = Math.min(stride * 2, baseStride * MAX_STRIDE_FACTOR);
+            }
+            nextTick = snap.tick + stride;
+        }
+
+        /** Drains what is already queued, finishes the current segment and waits briefly for the writer. */
+        void close() {
+            open = false;
+            try {
+                thread.join(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            try {
+                Files.createDirectories(dir);
+                while (open || !queue.isEmpty()) {
+                    // Poll rather than interrupt on close: interrupting NIO channel I/O closes the channel
+                    Sample sample = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (sample != null) write(sample.snap, sample.droppedBefore);
+                }
+            } catch (IOException e) {
+                System.err.println("Telemetry disabled: " + e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                open = false;
+                queue.clear();
+                closeSegment();
+            }
+        }
+
+        private void write(RenderSnapshot snap, int droppedBefore) throws IOException {
+            if (out == null || framesInSegment >= GameConfig.TELEMETRY_FRAMES_PER_FILE) rotate(snap);
+
+            int cells = snap.cols * snap.rows;
+            int drones = snap.droneCount();
+            out.writeByte(last == null ? FRAME_KEY : FRAME_DELTA);
+            out.writeLong(snap.tick);
+            writeVarInt(droppedBefore);
+
+            if (last == null) {
+                for (int i = 0; i < cells; i++) out.writeByte(snap.plantStages[i]);
+                for (int i = 0; i < drones; i++) writeDrone(snap, i);
+            } else {
+                int changed = 0;
+                for (int i = 0; i < cells; i++) if (snap.plantStages[i] != last.plantStages[i]) changed++;
+                writeVarInt(changed);
+                for (int i = 0, prev = -1; i < cells; i++) {
+                    if (snap.plantStages[i] == last.plantStages[i]) continue;
+                    writeVarInt(i - prev);
+                    out.writeByte(snap.plantStages[i]);
+                    prev = i;
+                }
+
+                changed = 0;
+                for (int i = 0; i < drones; i++) if (droneChanged(snap, i)) changed++;
+                writeVarInt(changed);
+                for (int i = 0, prev = -1; i < drones; i++) {
+                    if (!droneChanged(snap, i)) continue;
+                    writeVarInt(i - prev);
+                    writeDrone(snap, i);
+                    prev = i;
+                }
+            }
+
+            last = snap;
+            if (++framesInSegment % FLUSH_EVERY_FRAMES == 0) out.flush(); // sync-flush keeps files readable mid-run
+        }
+
+        private boolean droneChanged(RenderSnapshot snap, int i) {
+            return snap.droneX[i] != last.droneX[i] || snap.droneY[i] != last.droneY[i]
+                    || snap.droneLoad[i] != last.droneLoad[i];
+        }
+
+        private void writeDrone(RenderSnapshot snap, int i) throws IOException {
+            out.writeFloat((float) snap.droneX[i]);
+            out.writeFloat((float) snap.droneY[i]);
+            writeVarInt(snap.droneLoad[i]);
+        }
+
+        private void rotate(RenderSnapshot snap) throws IOException {
+            closeSegment();
+            FileChannel ch = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            out = new DataOutputStream(new GZIPOutputStream(Channels.newOutputStream(ch), 1 << 16, true));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(snap.cols);
+            out.writeInt(snap.rows);
+            out.writeInt(snap.droneCount());
+            for (String kind : snap.droneKinds) out.writeUTF(kind);
+
+            // Keep only the newest TELEMETRY_MAX_FILES segments of this run
+            if (segment >= GameConfig.TELEMETRY_MAX_FILES) {
+                Files.deleteIfExists(segmentPath(segment - GameConfig.TELEMETRY_MAX_FILES));
+            }
+            segment++;
+            framesInSegment = 0;
+            last = null; // each segment opens with a key frame
+        }
+
+        private Path segmentPath(int index) {
+            return dir.resolve(String.format("%s-%04d.igt.gz", runId, index));
+        }
+
+        private void closeSegment() {
+            if (out == null) return;
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Telemetry segment not closed cleanly: " + e);
+            }
+            out = null;
+        }
+
+        private void writeVarInt(int v) throws IOException {
+            while ((v & ~0x7F) != 0) {
+                out.writeByte((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.writeByte(v);
         }
     }
 
@@ -478,19 +990,31 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
     // =========================
     private final World world;
     private final AssetManager assets;
+    private final HudRenderer hud = new HudRenderer(GameConfig.HUD_FONT);
+    private final TelemetryWriter telemetry;
     private final java.util.List<Drone> drones = new ArrayList<>();
     private final java.util.List<Plant> plants = new ArrayList<>();
     private static Random rng = new Random();
 
-    private final Timer timer;
-    private long lastNanos;
+    // World and drones are owned by the simulation thread; other threads talk to it
+    // through simCommands and read from it only via the published snapshot.
+    private final Queue<Runnable> simCommands = new ConcurrentLinkedQueue<>();
+    private volatile RenderSnapshot snapshot;
+    private volatile boolean running;
+    private Thread simThread, renderThread;
+    private long tickCount = 0;
+    private boolean fastForward = false;
+
+    // Render-thread only: the newest snapshot drawn and the one before it, for interpolation lag
+    private RenderSnapshot shown, shownBefore;
 
     private int totalHarvested = 0;
 
     public ItGrowsYetAgain() {
         setPreferredSize(new Dimension(GameConfig.GRID_COLS * GameConfig.TILE_SIZE, GameConfig.GRID_ROWS * GameConfig.TILE_SIZE));
         setBackground(Color.black);
-        setDoubleBuffered(true);
+        setIgnoreRepaint(true); // frames are drawn actively by the render thread
+        setFocusable(true);
 
         if (GameConfig.RANDOM_SEED >= 0) {
             rng = new Random(GameConfig.RANDOM_SEED);
@@ -500,6 +1024,9 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
 
         assets = new AssetManager();
         world = new World(GameConfig.GRID_COLS, GameConfig.GRID_ROWS);
+        telemetry = GameConfig.TELEMETRY_ENABLED
+                ? new TelemetryWriter(Paths.get(GameConfig.TELEMETRY_DIR), GameConfig.TELEMETRY_QUEUE_CAPACITY, GameConfig.TELEMETRY_INTERVAL_TICKS)
+                : null;
 
         // Spawn drones at their rest areas
         for (int i = 0; i < GameConfig.SEEDER_COUNT; i++) {
@@ -516,48 +1043,39 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
         // Simple bookkeeping: count harvests
         addHarvestListener();
 
-        // Input: R to randomize plant growth; G to toggle grid; D to toggle debug
+        // Input: R to randomize plant growth; G to toggle grid; D to toggle debug; F to fast-forward;
+        // PgUp/PgDn to page the drone inspector
         setupKeybinds();
 
-        int delayMs = Math.max(5, 1000 / GameConfig.TARGET_FPS);
-        timer = new Timer(delayMs, this);
+        publishSnapshot(System.nanoTime(), 0.0, GameConfig.SIM_SPEED, 0.0);
     }
 
     private void setupKeybinds() {
-        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_R, 0), "random-seed");
-        getActionMap().put("random-seed", new AbstractAction() {
-            /**
-			 * 
-			 */
-			private static final long serialVersionUID = 1L;
-
-			@Override public void actionPerformed(ActionEvent e) {
-                // debug: randomly place some seeds right now
-                sprinkleSeeds(10);
-            }
-        });
-
-        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_G, 0), "toggle-grid");
-        getActionMap().put("toggle-grid", new AbstractAction() {
-            /**
-			 * 
-			 */
-			private static final long serialVersionUID = 1L;
-
-			@Override public void actionPerformed(ActionEvent e) {
-                GameConfig.DRAW_GRID_LINES = !GameConfig.DRAW_GRID_LINES;
-            }
-        });
-
-        getInputMap(WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_D, 0), "toggle-debug");
-        getActionMap().put("toggle-debug", new AbstractAction() {
-            /**
-			 * 
-			 */
-			private static final long serialVersionUID = 1L;
-
-			@Override public void actionPerformed(ActionEvent e) {
-                GameConfig.SHOW_DEBUG = !GameConfig.SHOW_DEBUG;
+        // A Canvas has no input/action maps, so dispatch on the key code directly.
+        addKeyListener(new KeyAdapter() {
+            @Override public void keyPressed(KeyEvent e) {
+                switch (e.getKeyCode()) {
+                    case KeyEvent.VK_R:
+                        // debug: randomly place some seeds right now
+                        simCommands.add(() -> sprinkleSeeds(10));
+                        break;
+                    case KeyEvent.VK_G:
+                        GameConfig.DRAW_GRID_LINES = !GameConfig.DRAW_GRID_LINES;
+                        break;
+                    case KeyEvent.VK_D:
+                        GameConfig.SHOW_DEBUG = !GameConfig.SHOW_DEBUG;
+                        break;
+                    case KeyEvent.VK_F:
+                        simCommands.add(() -> fastForward = !fastForward);
+                        break;
+                    case KeyEvent.VK_PAGE_UP:
+                        hud.pageBy(-1);
+                        break;
+                    case KeyEvent.VK_PAGE_DOWN:
+                        hud.pageBy(1);
+                        break;
+                    default:
+                }
             }
         });
     }
@@ -583,17 +1101,71 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
         // We'll count during update: when a ripe plant disappears, we bump totalHarvested via a scan.
     }
 
+    /** Must be called once the canvas is displayable (after the frame is shown). */
     public void start() {
-        lastNanos = System.nanoTime();
-        timer.start();
+        createBufferStrategy(2);
+        running = true;
+        simThread = new Thread(this::runSimulation, "sim");
+        renderThread = new Thread(this::runRenderer, "render");
+        simThread.setDaemon(true);
+        renderThread.setDaemon(true);
+        if (telemetry != null) telemetry.start();
+        simThread.start();
+        renderThread.start();
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        long now = System.nanoTime();
-        double dt = (now - lastNanos) / 1_000_000_000.0;
-        lastNanos = now;
+    /** Stops the simulation and flushes telemetry; the render thread winds down on its own. */
+    public void stop() {
+        running = false;
+        try {
+            if (simThread != null) simThread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (telemetry != null) telemetry.close();
+    }
+
+    // =========================
+    //        SIMULATION
+    // =========================
+    private void runSimulation() {
+        final long periodNanos = 1_000_000_000L / GameConfig.SIM_TICKS_PER_SEC;
+        final double stepSeconds = 1.0 / GameConfig.SIM_TICKS_PER_SEC;
+        double accumulator = 0.0;
+        long last = System.nanoTime();
+        long next = last + periodNanos;
+
+        while (running) {
+            long now = System.nanoTime();
+            double speed = fastForward ? GameConfig.SIM_FAST_SPEED : GameConfig.SIM_SPEED;
+            accumulator += (now - last) / 1_000_000_000.0 * speed;
+            last = now;
+
+            Runnable cmd;
+            while ((cmd = simCommands.poll()) != null) cmd.run();
+
+            // Fixed-size steps keep behaviour identical at any speed; higher speeds just take more of them.
+            int steps = 0;
+            while (accumulator >= stepSeconds && steps < GameConfig.SIM_MAX_STEPS_PER_TICK) {
+                step(stepSeconds);
+                accumulator -= stepSeconds;
+                steps++;
+            }
+            if (steps == GameConfig.SIM_MAX_STEPS_PER_TICK) accumulator = 0.0; // fell behind: drop the backlog
+
+            // Only publish when something moved: below 1x some loops take no step, and an empty
+            // snapshot would make drones pause. The lag covers one loop's worth of sim time plus a step.
+            if (steps > 0) {
+                double lag = periodNanos / 1_000_000_000.0 * speed + stepSeconds;
+                publishSnapshot(System.nanoTime(), accumulator, speed, lag);
+                if (telemetry != null) telemetry.sample(snapshot);
+            }
+
+            next = sleepUntil(next, periodNanos);
+        }
+    }
 
+    private void step(double dt) {
         // Update plants
         for (Cell c : world.allCells()) {
             if (c.plant != null) c.plant.update(dt);
@@ -602,23 +1174,112 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
         // Count harvested by comparing ripe count drop? (Optional; here we just track storage unloads if implemented)
         // Update drones
         for (Drone d : drones) d.update(dt);
+        tickCount++;
+    }
+
+    private void publishSnapshot(long nowNanos, double simPending, double speed, double renderLag) {
+        int[] stages = new int[world.cols * world.rows];
+        for (int y = 0; y < world.rows; y++) {
+            for (int x = 0; x < world.cols; x++) {
+                Plant p = world.cells[y][x].plant;
+                stages[y * world.cols + x] = p != null ? p.stage : -1;
+            }
+        }
+
+        int n = drones.size();
+        Image[] sprites = new Image[n];
+        double[] xs = new double[n], ys = new double[n];
+        String[] kinds = new String[n];
+        int[] load = new int[n], cap = new int[n], tx = new int[n], ty = new int[n];
+        for (int i = 0; i < n; i++) {
+            Drone d = drones.get(i);
+            sprites[i] = d.sprite;
+            xs[i] = d.x;
+            ys[i] = d.y;
+            kinds[i] = d.kindName();
+            load[i] = d.load();
+            cap[i] = d.capacity();
+            tx[i] = d.targetCx;
+            ty[i] = d.targetCy;
+        }
 
-        repaint();
+        RenderSnapshot prev = snapshot;
+        double[] px = prev != null ? prev.droneX : xs;
+        double[] py = prev != null ? prev.droneY : ys;
+        double simStart = prev != null ? prev.simEnd : 0.0;
+        double simEnd = tickCount / (double) GameConfig.SIM_TICKS_PER_SEC;
+        snapshot = new RenderSnapshot(tickCount, nowNanos, simStart, simEnd, simPending, speed, renderLag,
+                world.cols, world.rows, stages, sprites, px, py, xs, ys, kinds, load, cap, tx, ty);
+    }
+
+    /** Sleeps until the deadline and returns the next one; resyncs instead of bursting after a long stall. */
+    private static long sleepUntil(long deadline, long periodNanos) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            try {
+                Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return deadline + periodNanos;
+            }
+        }
+        long next = deadline + periodNanos;
+        long now = System.nanoTime();
+        return next < now ? now + periodNanos : next;
     }
 
     // =========================
     //        RENDERING
     // =========================
-    @Override
-    protected void paintComponent(Graphics g0) {
-        super.paintComponent(g0);
-        Graphics2D g = (Graphics2D) g0;
+    private void runRenderer() {
+        final long frameNanos = 1_000_000_000L / Math.max(1, GameConfig.TARGET_FPS);
+        long next = System.nanoTime() + frameNanos;
+        while (running) {
+            renderFrame(snapshot);
+            next = sleepUntil(next, frameNanos);
+        }
+    }
+
+    private void renderFrame(RenderSnapshot snap) {
+        BufferStrategy bs = getBufferStrategy();
+        if (bs == null || snap == null) return;
+        double t = snap.renderTime(System.nanoTime());
+        RenderSnapshot segment = segmentAt(snap, t);
+        double alpha = segment.alpha(t);
+        do {
+            do {
+                Graphics2D g = (Graphics2D) bs.getDrawGraphics();
+                try {
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    render(g, snap, segment, alpha);
+                } finally {
+                    g.dispose();
+                }
+            } while (bs.contentsRestored());
+            bs.show();
+        } while (bs.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /** Picks the snapshot whose simulated interval contains t: the newest, or the one just before it. */
+    private RenderSnapshot segmentAt(RenderSnapshot snap, double t) {
+        if (snap != shown) {
+            shownBefore = shown;
+            shown = snap;
+        }
+        // Only step back if nothing was skipped in between, so the two intervals are contiguous
+        if (t < snap.simStart && shownBefore != null && shownBefore.simEnd == snap.simStart) return shownBefore;
+        return snap;
+    }
+
+    private void render(Graphics2D g, RenderSnapshot snap, RenderSnapshot segment, double alpha) {
         g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
 
-        // Draw tiles
-        for (int y = 0; y < world.rows; y++) {
-            for (int x = 0; x < world.cols; x++) {
+        // Draw tiles (tile types never change after construction, so reading them here is safe)
+        for (int y = 0; y < snap.rows; y++) {
+            for (int x = 0; x < snap.cols; x++) {
                 Cell c = world.get(x, y);
                 Image tile;
                 switch (c.type) {
@@ -628,8 +1289,9 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
                 }
                 g.drawImage(tile, x * GameConfig.TILE_SIZE, y * GameConfig.TILE_SIZE, GameConfig.TILE_SIZE, GameConfig.TILE_SIZE, null);
 
-                if (c.plant != null) {
-                    Image plantImg = assets.plantStage(c.plant.stage);
+                int stage = snap.plantStage(x, y);
+                if (stage >= 0) {
+                    Image plantImg = assets.plantStage(stage);
                     g.drawImage(plantImg, x * GameConfig.TILE_SIZE, y * GameConfig.TILE_SIZE, GameConfig.TILE_SIZE, GameConfig.TILE_SIZE, null);
                 }
             }
@@ -637,34 +1299,26 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
 
         // Grid lines
         if (GameConfig.DRAW_GRID_LINES) {
-            g.setColor(new Color(255,255,255,30));
-            for (int x = 0; x <= world.cols; x++) {
+            g.setColor(GameConfig.COLOR_GRID_LINES);
+            for (int x = 0; x <= snap.cols; x++) {
                 int px = x * GameConfig.TILE_SIZE;
-                g.drawLine(px, 0, px, world.rows * GameConfig.TILE_SIZE);
+                g.drawLine(px, 0, px, snap.rows * GameConfig.TILE_SIZE);
             }
-            for (int y = 0; y <= world.rows; y++) {
+            for (int y = 0; y <= snap.rows; y++) {
                 int py = y * GameConfig.TILE_SIZE;
-                g.drawLine(0, py, world.cols * GameConfig.TILE_SIZE, py);
+                g.drawLine(0, py, snap.cols * GameConfig.TILE_SIZE, py);
             }
         }
 
-        // Drones on top
-        for (Drone d : drones) d.render(g);
+        // Drones on top, interpolated in simulated time within the chosen snapshot
+        int s = GameConfig.TILE_SIZE;
+        for (int i = 0; i < snap.droneSprites.length; i++) {
+            double dx = segment.x(i, alpha), dy = segment.y(i, alpha);
+            g.drawImage(snap.droneSprites[i], (int)(dx - s/2), (int)(dy - s/2), s, s, null);
+        }
 
         // HUD
-        g.setFont(GameConfig.HUD_FONT);
-        g.setColor(new Color(255,255,255,220));
-        int line = 1;
-        int margin = 6;
-        g.drawString("ItGrowsYetAgain  R: sprinkle seeds | G: grid | D: debug", margin, line++ * 16);
-        g.drawString("Seeders=" + GameConfig.SEEDER_COUNT + "  Harvesters=" + GameConfig.HARVESTER_COUNT, margin, line++ * 16);
-
-        if (GameConfig.SHOW_DEBUG) {
-            for (Drone d : drones) {
-                String s = d.debug();
-                g.drawString(s, margin, line++ * 16);
-            }
-        }
+        hud.render(g, snap, getWidth(), getHeight());
     }
 
     // =========================
@@ -703,15 +1357,22 @@ public class ItGrowsYetAgain extends JPanel implements ActionListener {
     //           MAIN
     // =========================
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--telemetry")) GameConfig.TELEMETRY_ENABLED = true;
+
         SwingUtilities.invokeLater(() -> {
             JFrame f = new JFrame("It Grows Yet Again");
-            ItGrowsYetAgain panel = new ItGrowsYetAgain();
+            ItGrowsYetAgain game = new ItGrowsYetAgain();
             f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-            f.setContentPane(panel);
+            f.addWindowListener(new WindowAdapter() {
+                // Runs before EXIT_ON_CLOSE exits, so the last telemetry segment gets its gzip trailer
+                @Override public void windowClosing(WindowEvent e) { game.stop(); }
+            });
+            f.add(game);
             f.pack();
             f.setLocationRelativeTo(null);
             f.setVisible(true);
-            panel.start();
+            game.requestFocus();
+            game.start();
         });
     }
 }